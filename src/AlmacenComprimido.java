@@ -0,0 +1,422 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Clase AlmacenComprimido — Guarda y lee los clientes en un fichero
+ * binario comprimido, mas pequeno que el CSV.
+ *
+ * Los clientes se guardan en bloques de TAMANO_BLOQUE registros. Dentro
+ * de cada bloque los datos van por columnas, y las columnas que se
+ * repiten mucho (empresa, categoria, dominio del email y prefijo del
+ * telefono) se guardan con un diccionario: cada valor distinto se
+ * escribe una vez y las filas solo guardan su numero. Despues el bloque
+ * se comprime con Deflater en modo rapido.
+ *
+ * Cada bloque lleva una cabecera con su numero de registros y su
+ * longitud, asi que el fichero se lee y descomprime bloque a bloque,
+ * sin tener que descomprimirlo entero de golpe.
+ *
+ * Formato: "CRMZ" + version, y despues por cada bloque:
+ * numRegistros, longitudOriginal, longitudComprimida, datos.
+ *
+ * @author Alumno
+ * @version 1.0
+ */
+public class AlmacenComprimido {
+
+    // Cabecera del fichero ("CRMZ" en ASCII) y version del formato
+    private static final int MAGICO = 0x43524D5A;
+    private static final int VERSION = 1;
+
+    // Numero de clientes por bloque
+    private static final int TAMANO_BLOQUE = 8192;
+
+    // Caracteres del telefono que se guardan con diccionario
+    private static final int LONGITUD_PREFIJO = 3;
+
+    // Tamano maximo de un bloque en bytes (comprimido o no). Al leer,
+    // una cabecera que lo supere es un fichero danado, no memoria a reservar
+    private static final int LIMITE_BLOQUE = 64 * 1024 * 1024;
+
+    // Fichero abierto para lectura
+    private DataInputStream entrada;
+
+    // Cabecera del bloque actual
+    private int numRegistros;
+    private int longitudOriginal;
+    private int longitudComprimida;
+
+    // Bytes del fichero leidos hasta ahora (para mostrar el progreso)
+    private long bytesLeidos;
+
+    /**
+     * Constructor — Abre un fichero comprimido para leerlo bloque a bloque.
+     *
+     * @param ruta Ruta del fichero comprimido
+     * @throws IOException Si no se puede abrir o no tiene el formato correcto
+     */
+    public AlmacenComprimido(String ruta) throws IOException {
+        entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(ruta)));
+
+        if (entrada.readInt() != MAGICO) {
+            entrada.close();
+            throw new IOException("El fichero " + ruta + " no es un fichero CRMZ");
+        }
+        int version = entrada.readInt();
+        if (version != VERSION) {
+            entrada.close();
+            throw new IOException("Version de fichero no soportada: " + version);
+        }
+        bytesLeidos = 8;
+    }
+
+    // ============================================================
+    // LECTURA BLOQUE A BLOQUE
+    // ============================================================
+
+    /**
+     * Lee la cabecera del siguiente bloque. Despues hay que llamar a
+     * descomprimir() antes de pasar al siguiente.
+     *
+     * @return true si hay otro bloque, false si se ha llegado al final
+     * @throws IOException Si hay un error de lectura o la cabecera esta danada
+     */
+    public boolean siguienteBloque() throws IOException {
+        try {
+            numRegistros = entrada.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        longitudOriginal = entrada.readInt();
+        longitudComprimida = entrada.readInt();
+        bytesLeidos += 12;
+
+        // Comprobar la cabecera antes de reservar memoria con ella
+        if (numRegistros < 1 || numRegistros > TAMANO_BLOQUE) {
+            throw new IOException("Bloque danado: " + numRegistros + " registros");
+        }
+        if (longitudOriginal < 0 || longitudOriginal > LIMITE_BLOQUE ||
+            longitudComprimida < 0 || longitudComprimida > LIMITE_BLOQUE) {
+            throw new IOException("Bloque danado: longitudes " + longitudOriginal +
+                                  "/" + longitudComprimida);
+        }
+        return true;
+    }
+
+    /**
+     * Descomprime el bloque actual y devuelve sus clientes.
+     * Cualquier dato fuera de rango se trata como fichero danado.
+     *
+     * @return Lista de clientes del bloque
+     * @throws IOException Si los datos del bloque estan danados
+     */
+    public List<Cliente> descomprimir() throws IOException {
+        byte[] comprimido = new byte[longitudComprimida];
+        entrada.readFully(comprimido);
+        bytesLeidos += longitudComprimida;
+
+        // Descomprimir el bloque entero en memoria
+        byte[] datos = new byte[longitudOriginal];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(comprimido);
+            if (inflater.inflate(datos) != longitudOriginal || !inflater.finished()) {
+                throw new IOException("Bloque comprimido incompleto");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Bloque comprimido danado: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+
+        DataInputStream columnas = new DataInputStream(new ByteArrayInputStream(datos));
+        List<Cliente> clientes = decodificarBloque(columnas, numRegistros);
+        if (columnas.available() != 0) {
+            throw new IOException("Bloque danado: sobran " + columnas.available() + " bytes");
+        }
+        return clientes;
+    }
+
+    /**
+     * Cierra el fichero.
+     *
+     * @throws IOException Si hay un error al cerrar
+     */
+    public void cerrar() throws IOException {
+        entrada.close();
+    }
+
+    public long getBytesLeidos() {
+        return bytesLeidos;
+    }
+
+    // ============================================================
+    // ESCRITURA
+    // ============================================================
+
+    /**
+     * Guarda todos los clientes en un fichero comprimido,
+     * sustituyendo su contenido.
+     *
+     * @param clientes Lista de clientes a guardar
+     * @param ruta     Ruta del fichero comprimido
+     * @throws IOException Si no se puede escribir el fichero
+     */
+    public static void guardar(List<Cliente> clientes, String ruta) throws IOException {
+        DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(ruta)));
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+
+            // Escribir los clientes en bloques de TAMANO_BLOQUE
+            for (int inicio = 0; inicio < clientes.size(); inicio += TAMANO_BLOQUE) {
+                int fin = Math.min(inicio + TAMANO_BLOQUE, clientes.size());
+                escribirBloque(salida, clientes.subList(inicio, fin), deflater);
+            }
+        } finally {
+            deflater.end();
+            salida.close();
+        }
+    }
+
+    // ============================================================
+    // CODIFICACION DE UN BLOQUE
+    // ============================================================
+
+    /**
+     * Codifica un bloque por columnas, lo comprime y lo escribe
+     * con su cabecera.
+     */
+    private static void escribirBloque(DataOutputStream salida, List<Cliente> bloque,
+                                       Deflater deflater) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream datos = new DataOutputStream(buffer);
+
+        int n = bloque.size();
+
+        // Columna de IDs: diferencia con el anterior (suelen ir seguidos)
+        int anterior = 0;
+        for (Cliente c : bloque) {
+            escribirVarInt(datos, zigzag(c.getId() - anterior));
+            anterior = c.getId();
+        }
+
+        // Columnas de texto sin diccionario
+        for (Cliente c : bloque) {
+            datos.writeUTF(c.getNombre());
+        }
+        for (Cliente c : bloque) {
+            datos.writeUTF(usuarioEmail(c.getEmail()));
+        }
+        for (Cliente c : bloque) {
+            datos.writeUTF(restoTelefono(c.getTelefono()));
+        }
+
+        // Columnas repetitivas con diccionario
+        String[] dominios = new String[n];
+        String[] prefijos = new String[n];
+        String[] empresas = new String[n];
+        String[] categorias = new String[n];
+        for (int i = 0; i < n; i++) {
+            Cliente c = bloque.get(i);
+            dominios[i] = dominioEmail(c.getEmail());
+            prefijos[i] = prefijoTelefono(c.getTelefono());
+            empresas[i] = c.getEmpresa();
+            categorias[i] = c.getCategoria();
+        }
+        escribirDiccionario(datos, dominios);
+        escribirDiccionario(datos, prefijos);
+        escribirDiccionario(datos, empresas);
+        escribirDiccionario(datos, categorias);
+        datos.flush();
+
+        // Comprimir el bloque
+        byte[] original = buffer.toByteArray();
+        deflater.reset();
+        deflater.setInput(original);
+        deflater.finish();
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream(original.length / 2 + 64);
+        byte[] trozo = new byte[8192];
+        while (!deflater.finished()) {
+            int leidos = deflater.deflate(trozo);
+            comprimido.write(trozo, 0, leidos);
+        }
+
+        // No escribir bloques que luego no se podrian leer
+        if (original.length > LIMITE_BLOQUE || comprimido.size() > LIMITE_BLOQUE) {
+            throw new IOException("Bloque de " + original.length + " bytes, el maximo es " + LIMITE_BLOQUE);
+        }
+
+        // Cabecera del bloque y datos comprimidos
+        salida.writeInt(n);
+        salida.writeInt(original.length);
+        salida.writeInt(comprimido.size());
+        comprimido.writeTo(salida);
+    }
+
+    /**
+     * Lee las columnas de un bloque descomprimido y reconstruye los clientes.
+     */
+    private static List<Cliente> decodificarBloque(DataInputStream datos, int n) throws IOException {
+        int[] ids = new int[n];
+        int anterior = 0;
+        for (int i = 0; i < n; i++) {
+            anterior += deshacerZigzag(leerVarInt(datos));
+            ids[i] = anterior;
+        }
+
+        String[] nombres = leerColumna(datos, n);
+        String[] usuarios = leerColumna(datos, n);
+        String[] restos = leerColumna(datos, n);
+        String[] dominios = leerDiccionario(datos, n);
+        String[] prefijos = leerDiccionario(datos, n);
+        String[] empresas = leerDiccionario(datos, n);
+        String[] categorias = leerDiccionario(datos, n);
+
+        ArrayList<Cliente> clientes = new ArrayList<Cliente>(n);
+        for (int i = 0; i < n; i++) {
+            clientes.add(new Cliente(ids[i], nombres[i], usuarios[i] + dominios[i],
+                                     prefijos[i] + restos[i], empresas[i], categorias[i]));
+        }
+        return clientes;
+    }
+
+    /**
+     * Escribe una columna con diccionario: primero los valores distintos
+     * y despues el numero de valor de cada fila.
+     */
+    private static void escribirDiccionario(DataOutputStream datos, String[] columna) throws IOException {
+        HashMap<String, Integer> codigos = new HashMap<String, Integer>();
+        ArrayList<String> valores = new ArrayList<String>();
+        int[] filas = new int[columna.length];
+
+        for (int i = 0; i < columna.length; i++) {
+            Integer codigo = codigos.get(columna[i]);
+            if (codigo == null) {
+                codigo = valores.size();
+                codigos.put(columna[i], codigo);
+                valores.add(columna[i]);
+            }
+            filas[i] = codigo;
+        }
+
+        escribirVarInt(datos, valores.size());
+        for (String v : valores) {
+            datos.writeUTF(v);
+        }
+        for (int codigo : filas) {
+            escribirVarInt(datos, codigo);
+        }
+    }
+
+    /**
+     * Lee una columna escrita con escribirDiccionario(), comprobando
+     * que el diccionario y los codigos estan dentro de rango.
+     */
+    private static String[] leerDiccionario(DataInputStream datos, int n) throws IOException {
+        int tamano = leerVarInt(datos);
+        if (tamano < 0 || tamano > n) {
+            throw new IOException("Bloque danado: diccionario de " + tamano + " valores");
+        }
+
+        String[] valores = leerColumna(datos, tamano);
+        String[] columna = new String[n];
+        for (int i = 0; i < n; i++) {
+            int codigo = leerVarInt(datos);
+            if (codigo < 0 || codigo >= tamano) {
+                throw new IOException("Bloque danado: codigo " + codigo + " fuera del diccionario");
+            }
+            columna[i] = valores[codigo];
+        }
+        return columna;
+    }
+
+    /**
+     * Lee n textos seguidos.
+     */
+    private static String[] leerColumna(DataInputStream datos, int n) throws IOException {
+        String[] columna = new String[n];
+        for (int i = 0; i < n; i++) {
+            columna[i] = datos.readUTF();
+        }
+        return columna;
+    }
+
+    // ============================================================
+    // METODOS AUXILIARES PRIVADOS
+    // ============================================================
+
+    /**
+     * Parte del email antes de la ultima '@' (todo si no tiene '@').
+     */
+    private static String usuarioEmail(String email) {
+        int arroba = email.lastIndexOf('@');
+        return arroba < 0 ? email : email.substring(0, arroba);
+    }
+
+    /**
+     * Dominio del email incluyendo la '@' (vacio si no tiene '@'),
+     * para poder reconstruir el email exacto.
+     */
+    private static String dominioEmail(String email) {
+        int arroba = email.lastIndexOf('@');
+        return arroba < 0 ? "" : email.substring(arroba);
+    }
+
+    private static String prefijoTelefono(String telefono) {
+        return telefono.substring(0, Math.min(LONGITUD_PREFIJO, telefono.length()));
+    }
+
+    private static String restoTelefono(String telefono) {
+        return telefono.substring(Math.min(LONGITUD_PREFIJO, telefono.length()));
+    }
+
+    /**
+     * Escribe un entero no negativo en 1 a 5 bytes (7 bits por byte).
+     */
+    private static void escribirVarInt(DataOutputStream datos, int valor) throws IOException {
+        while ((valor & ~0x7F) != 0) {
+            datos.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        datos.writeByte(valor);
+    }
+
+    /**
+     * Lee un entero escrito con escribirVarInt().
+     */
+    private static int leerVarInt(DataInputStream datos) throws IOException {
+        int valor = 0;
+        int desplazamiento = 0;
+        int b;
+        do {
+            if (desplazamiento > 28) {
+                throw new IOException("Bloque danado: entero demasiado largo");
+            }
+            b = datos.readUnsignedByte();
+            valor |= (b & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while ((b & 0x80) != 0);
+        return valor;
+    }
+
+    /**
+     * Convierte un entero con signo en uno sin signo (0, -1, 1, -2...)
+     * para que las diferencias negativas tambien ocupen poco.
+     */
+    private static int zigzag(int valor) {
+        return (valor << 1) ^ (valor >> 31);
+    }
+
+    private static int deshacerZigzag(int valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+}
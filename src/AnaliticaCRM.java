@@ -0,0 +1,144 @@
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase AnaliticaCRM — Resumen aproximado de los datos del CRM.
+ * Calcula las empresas y dominios de email mas frecuentes y cuantos
+ * valores distintos hay, usando sketches de memoria fija en lugar de
+ * un mapa con todos los valores. Se construye en la misma pasada que
+ * carga el fichero y se actualiza con cada alta, cambio o baja.
+ *
+ * @author Alumno
+ * @version 1.0
+ */
+public class AnaliticaCRM {
+
+    // Numero de candidatos que recuerda cada top-K
+    private static final int MAX_CANDIDATOS = 64;
+
+    // Frecuencias aproximadas de empresas y dominios
+    private SketchFrecuencias empresas;
+    private SketchFrecuencias dominios;
+
+    // Contadores de valores distintos
+    private HyperLogLog empresasDistintas;
+    private HyperLogLog dominiosDistintos;
+
+    /**
+     * Constructor — Crea la analitica vacia.
+     */
+    public AnaliticaCRM() {
+        empresas = new SketchFrecuencias(MAX_CANDIDATOS);
+        dominios = new SketchFrecuencias(MAX_CANDIDATOS);
+        empresasDistintas = new HyperLogLog();
+        dominiosDistintos = new HyperLogLog();
+    }
+
+    /**
+     * Suma un cliente a la analitica (alta o despues de modificarlo).
+     *
+     * @param c Cliente a registrar
+     */
+    public synchronized void registrar(Cliente c) {
+        String empresa = empresaDe(c);
+        if (empresa != null) {
+            empresas.sumar(empresa, 1);
+            empresasDistintas.anadir(empresa);
+        }
+
+        String dominio = dominioDe(c);
+        if (dominio != null) {
+            dominios.sumar(dominio, 1);
+            dominiosDistintos.anadir(dominio);
+        }
+    }
+
+    /**
+     * Resta un cliente de la analitica (baja o antes de modificarlo).
+     * Los contadores de distintos no bajan: cuentan los valores vistos.
+     *
+     * @param c Cliente a quitar
+     */
+    public synchronized void quitar(Cliente c) {
+        String empresa = empresaDe(c);
+        if (empresa != null) {
+            empresas.sumar(empresa, -1);
+        }
+
+        String dominio = dominioDe(c);
+        if (dominio != null) {
+            dominios.sumar(dominio, -1);
+        }
+    }
+
+    /**
+     * @param k Numero de empresas a devolver
+     * @return Las k empresas mas frecuentes con su frecuencia estimada
+     */
+    public synchronized List<Map.Entry<String, Long>> topEmpresas(int k) {
+        return empresas.top(k);
+    }
+
+    /**
+     * @param k Numero de dominios a devolver
+     * @return Los k dominios de email mas frecuentes con su frecuencia estimada
+     */
+    public synchronized List<Map.Entry<String, Long>> topDominios(int k) {
+        return dominios.top(k);
+    }
+
+    /**
+     * @return Cuanto puede pasarse como mucho la frecuencia de una empresa
+     */
+    public synchronized long margenEmpresas() {
+        return empresas.margenError();
+    }
+
+    /**
+     * @return Cuanto puede pasarse como mucho la frecuencia de un dominio
+     */
+    public synchronized long margenDominios() {
+        return dominios.margenError();
+    }
+
+    /**
+     * @return Numero aproximado de empresas distintas
+     */
+    public synchronized long numEmpresasDistintas() {
+        return empresasDistintas.estimar();
+    }
+
+    /**
+     * @return Numero aproximado de dominios de email distintos
+     */
+    public synchronized long numDominiosDistintos() {
+        return dominiosDistintos.estimar();
+    }
+
+    // ============================================================
+    // METODOS AUXILIARES PRIVADOS
+    // ============================================================
+
+    /**
+     * Devuelve la empresa del cliente, o null si es particular ("-").
+     */
+    private static String empresaDe(Cliente c) {
+        String empresa = c.getEmpresa();
+        if (empresa == null || empresa.isEmpty() || empresa.equals("-")) {
+            return null;
+        }
+        return empresa;
+    }
+
+    /**
+     * Devuelve el dominio del email en minusculas, o null si no tiene '@'.
+     */
+    private static String dominioDe(Cliente c) {
+        String email = c.getEmail();
+        int arroba = email == null ? -1 : email.lastIndexOf('@');
+        if (arroba < 0 || arroba == email.length() - 1) {
+            return null;
+        }
+        return email.substring(arroba + 1).toLowerCase();
+    }
+}
@@ -1,4 +1,5 @@
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * Clase Cliente — Representa un cliente del CRM.
@@ -122,12 +123,24 @@ public class Cliente implements Serializable {
      * @return Objeto Cliente creado, o null si el formato es incorrecto
      */
     public static Cliente fromCSV(String linea) {
+        return fromCSV(linea, null);
+    }
+
+    /**
+     * Crea un objeto Cliente a partir de una linea CSV, guardando el
+     * aviso en una lista en lugar de imprimirlo (para el hilo de carga).
+     * 
+     * @param linea  Linea en formato id;nombre;email;telefono;empresa;categoria
+     * @param avisos Lista donde anadir el aviso si hay error, o null para imprimirlo
+     * @return Objeto Cliente creado, o null si el formato es incorrecto
+     */
+    public static Cliente fromCSV(String linea, List<String> avisos) {
         // Separar la linea por punto y coma
         String[] partes = linea.split(";");
 
         // Comprobar que tiene exactamente 6 campos
         if (partes.length != 6) {
-            System.out.println("  [!] Linea con formato incorrecto: " + linea);
+            avisar(avisos, "  [!] Linea con formato incorrecto: " + linea);
             return null;
         }
 
@@ -141,8 +154,19 @@ public class Cliente implements Serializable {
 
             return new Cliente(id, nombre, email, telefono, empresa, categoria);
         } catch (NumberFormatException e) {
-            System.out.println("  [!] Error al leer el ID: " + partes[0]);
+            avisar(avisos, "  [!] Error al leer el ID: " + partes[0]);
             return null;
         }
     }
+
+    /**
+     * Imprime un aviso, o lo anade a la lista si se ha pasado una.
+     */
+    private static void avisar(List<String> avisos, String aviso) {
+        if (avisos == null) {
+            System.out.println(aviso);
+        } else {
+            avisos.add(aviso);
+        }
+    }
 }
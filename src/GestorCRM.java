@@ -1,6 +1,11 @@
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Clase GestorCRM — Logica principal del CRM.
@@ -18,16 +23,80 @@ public class GestorCRM {
     // Contador para asignar IDs automaticamente
     private int siguienteId;
 
+    // Top de empresas/dominios y valores distintos (memoria fija)
+    private AnaliticaCRM analitica;
+
     // Nombre del fichero donde se guardan los datos
     private static final String FICHERO_DATOS = "datos/clientes.csv";
 
+    // Fichero de datos en modo comprimido (ver AlmacenComprimido)
+    private static final String FICHERO_COMPRIMIDO = "datos/clientes.crmz";
+
+    // Si es true, los datos se guardan en el fichero comprimido
+    private boolean modoComprimido;
+
+    // Hilo que carga el fichero en segundo plano
+    private Thread hiloCarga;
+
+    // Indica si la carga del fichero ha terminado
+    private volatile boolean cargaCompleta;
+
+    // Indica si la carga ha fallado a medias: la lista esta incompleta
+    // y no se puede guardar sin perder los clientes que faltan
+    private volatile boolean cargaFallida;
+
+    // Fichero que lee el hilo de carga (se elige antes de lanzarlo)
+    private File ficheroCarga;
+
+    // Progreso de la carga: bytes leidos sobre el tamano del fichero
+    private volatile long bytesLeidos;
+    private volatile long bytesTotales;
+
+    // Mensajes del hilo de carga, que se muestran desde el menu
+    // para no cortar lo que el usuario esta escribiendo
+    private ArrayList<String> avisosCarga;
+
+    // Avisos que no se guardan para no llenar la memoria
+    private int avisosOmitidos;
+
+    // Numero maximo de avisos de carga que se guardan
+    private static final int MAX_AVISOS = 20;
+
     /**
-     * Constructor — Inicializa la lista y carga datos del fichero.
+     * Constructor — Crea el gestor guardando los datos en CSV.
      */
     public GestorCRM() {
+        this(false);
+    }
+
+    /**
+     * Constructor — Inicializa la lista y lanza la carga de datos
+     * en un hilo en segundo plano, para que el menu aparezca al momento
+     * sin esperar a leer todo el fichero.
+     *
+     * @param modoComprimido true para guardar los datos en el fichero comprimido
+     */
+    public GestorCRM(boolean modoComprimido) {
+        this.modoComprimido = modoComprimido;
         clientes = new ArrayList<Cliente>();
         siguienteId = 1;
-        cargarDatos();
+        analitica = new AnaliticaCRM();
+        avisosCarga = new ArrayList<String>();
+        cargaCompleta = false;
+
+        // Elegir el fichero y su tamano antes de lanzar el hilo,
+        // para que el progreso sea correcto desde el principio
+        ficheroCarga = elegirFicheroCarga();
+        bytesTotales = ficheroCarga.length();
+
+        hiloCarga = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                cargarDatos();
+            }
+        }, "carga-clientes");
+        hiloCarga.setDaemon(true);
+        hiloCarga.start();
     }
 
     // ============================================================
@@ -86,9 +155,17 @@ public class GestorCRM {
         // Pedir categoria con menu de opciones
         String categoria = elegirCategoria(scanner);
 
+        // El ID y el guardado necesitan todos los datos cargados
+        if (!esperarCarga()) {
+            return;
+        }
+
         // Crear el cliente y anadirlo a la lista
         Cliente nuevo = new Cliente(siguienteId, nombre, email, telefono, empresa, categoria);
-        clientes.add(nuevo);
+        synchronized (clientes) {
+            clientes.add(nuevo);
+        }
+        analitica.registrar(nuevo);
         siguienteId++;
 
         // Guardar en fichero automaticamente
@@ -104,11 +181,16 @@ public class GestorCRM {
     /**
      * Muestra todos los clientes en formato de tabla.
      * Si no hay clientes muestra un mensaje informativo.
+     * Si la carga no ha terminado, muestra los clientes leidos hasta ahora.
      */
     public void listarClientes() {
         System.out.println();
+        mostrarProgresoCarga();
 
-        if (clientes.isEmpty()) {
+        // Copia de la lista para no bloquear al hilo de carga
+        ArrayList<Cliente> lista = clientesParaRecorrer();
+
+        if (lista.isEmpty()) {
             System.out.println("  [i] No hay clientes registrados en el CRM.");
             return;
         }
@@ -125,12 +207,12 @@ public class GestorCRM {
         System.out.println("  |----- ---------------------- -------------------------- ------------- ---------------- -----------|");
 
         // Recorrer la lista con un bucle for-each
-        for (Cliente c : clientes) {
+        for (Cliente c : lista) {
             System.out.println("  " + c.toString());
         }
 
         System.out.println("  ╚══════════════════════════════════════════════════════════════════════════════════════════════════════╝");
-        System.out.println("  Total: " + clientes.size() + " cliente(s)");
+        System.out.println("  Total: " + lista.size() + " cliente(s)");
     }
 
     // ============================================================
@@ -139,6 +221,7 @@ public class GestorCRM {
     /**
      * Busca clientes cuyo nombre o email contenga el texto buscado.
      * La busqueda es case-insensitive (ignora mayusculas/minusculas).
+     * Mientras se cargan los datos, busca solo en los clientes ya leidos.
      * 
      * @param scanner Objeto Scanner para leer la entrada del usuario
      */
@@ -152,10 +235,13 @@ public class GestorCRM {
             return;
         }
 
+        // Si la carga no ha terminado, se busca en lo leido hasta ahora
+        mostrarProgresoCarga();
+
         // Crear una lista auxiliar con los resultados
         ArrayList<Cliente> resultados = new ArrayList<Cliente>();
 
-        for (Cliente c : clientes) {
+        for (Cliente c : clientesParaRecorrer()) {
             // Comparar en minusculas para ignorar mayusculas
             if (c.getNombre().toLowerCase().contains(busqueda) ||
                 c.getEmail().toLowerCase().contains(busqueda)) {
@@ -196,6 +282,11 @@ public class GestorCRM {
         System.out.print("  ID del cliente a modificar: ");
         int id = leerEntero(scanner);
 
+        // Buscar por ID y guardar necesitan todos los datos cargados
+        if (!esperarCarga()) {
+            return;
+        }
+
         // Buscar el cliente por ID
         Cliente cliente = buscarPorId(id);
 
@@ -211,6 +302,9 @@ public class GestorCRM {
         System.out.println("  (Deja vacio para mantener el valor actual)");
         System.out.println();
 
+        // Quitar los datos antiguos de la analitica antes de cambiarlos
+        analitica.quitar(cliente);
+
         // Pedir nuevos datos
         System.out.print("  Nuevo nombre [" + cliente.getNombre() + "]: ");
         String nombre = scanner.nextLine().trim();
@@ -242,6 +336,9 @@ public class GestorCRM {
             cliente.setCategoria(categoria);
         }
 
+        // Volver a contar el cliente con los datos nuevos
+        analitica.registrar(cliente);
+
         // Guardar cambios
         guardarDatos();
 
@@ -262,6 +359,11 @@ public class GestorCRM {
         System.out.print("  ID del cliente a eliminar: ");
         int id = leerEntero(scanner);
 
+        // Buscar por ID y guardar necesitan todos los datos cargados
+        if (!esperarCarga()) {
+            return;
+        }
+
         // Buscar el cliente
         Cliente cliente = buscarPorId(id);
 
@@ -278,7 +380,10 @@ public class GestorCRM {
         String confirmacion = scanner.nextLine().trim().toLowerCase();
 
         if (confirmacion.equals("s") || confirmacion.equals("si")) {
-            clientes.remove(cliente);
+            synchronized (clientes) {
+                clientes.remove(cliente);
+            }
+            analitica.quitar(cliente);
             guardarDatos();
             System.out.println("  [OK] Cliente '" + cliente.getNombre() + "' eliminado.");
         } else {
@@ -292,6 +397,7 @@ public class GestorCRM {
     /**
      * Muestra un resumen con el numero de clientes por categoria
      * y el total de registros en el CRM.
+     * Espera a que termine la carga para que los totales sean completos.
      */
     public void mostrarEstadisticas() {
         System.out.println();
@@ -300,6 +406,11 @@ public class GestorCRM {
         System.out.println("  ╚══════════════════════════════════════╝");
         System.out.println();
 
+        // Las estadisticas necesitan todos los datos cargados
+        if (!esperarCarga()) {
+            return;
+        }
+
         // Contadores por categoria
         int particulares = 0;
         int empresas = 0;
@@ -334,12 +445,255 @@ public class GestorCRM {
         }
     }
 
+    // ============================================================
+    // OPERACION: Analitica (top empresas y dominios)
+    // ============================================================
+    /**
+     * Muestra las empresas y dominios de email mas frecuentes y
+     * cuantos valores distintos hay. Los numeros son aproximados,
+     * porque salen de sketches de memoria fija: cada frecuencia puede
+     * pasarse como mucho en el margen de error que se muestra.
+     * Mientras se cargan los datos, muestra lo calculado hasta ahora.
+     */
+    public void mostrarAnalitica() {
+        System.out.println();
+        System.out.println("  ╔══════════════════════════════════════╗");
+        System.out.println("  ║      ANALITICA DEL CRM (APROX.)      ║");
+        System.out.println("  ╚══════════════════════════════════════╝");
+        System.out.println();
+        mostrarProgresoCarga();
+
+        System.out.println("  Empresas distintas:    ~" + analitica.numEmpresasDistintas());
+        System.out.println("  Dominios distintos:    ~" + analitica.numDominiosDistintos());
+        System.out.println();
+
+        System.out.println("  Empresas mas frecuentes (margen de error: +" +
+                           analitica.margenEmpresas() + "):");
+        mostrarTop(analitica.topEmpresas(10));
+        System.out.println();
+
+        System.out.println("  Dominios de email mas frecuentes (margen de error: +" +
+                           analitica.margenDominios() + "):");
+        mostrarTop(analitica.topDominios(10));
+    }
+
+    // ============================================================
+    // OPERACION: Comparar almacenamiento CSV y comprimido
+    // ============================================================
+    /**
+     * Guarda y vuelve a leer los clientes actuales en los dos formatos
+     * (CSV y comprimido) usando ficheros temporales, y muestra el tamano
+     * y el tiempo de guardado y carga de cada uno.
+     */
+    public void compararAlmacenamiento() {
+        System.out.println();
+        System.out.println("  ╔══════════════════════════════════════╗");
+        System.out.println("  ║   COMPARAR: CSV VS COMPRIMIDO        ║");
+        System.out.println("  ╚══════════════════════════════════════╝");
+        System.out.println();
+
+        // La comparacion necesita todos los datos cargados
+        if (!esperarCarga()) {
+            return;
+        }
+
+        ArrayList<Cliente> lista = clientes;
+        if (lista.isEmpty()) {
+            System.out.println("  [i] El CRM esta vacio. Anade clientes para comparar.");
+            return;
+        }
+
+        File csv = null;
+        File comprimido = null;
+        try {
+            csv = File.createTempFile("crm", ".csv");
+            comprimido = File.createTempFile("crm", ".crmz");
+
+            // CSV: guardar y volver a leer
+            long inicio = System.nanoTime();
+            escribirCSV(lista, csv.getPath());
+            long guardarCSV = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            int leidosCSV = 0;
+            BufferedReader lector = new BufferedReader(new FileReader(csv));
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (Cliente.fromCSV(linea) != null) {
+                    leidosCSV++;
+                }
+            }
+            lector.close();
+            long cargarCSV = System.nanoTime() - inicio;
+
+            // Comprimido: guardar y volver a leer
+            inicio = System.nanoTime();
+            AlmacenComprimido.guardar(lista, comprimido.getPath());
+            long guardarComprimido = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            int leidosComprimido = 0;
+            AlmacenComprimido almacen = new AlmacenComprimido(comprimido.getPath());
+            while (almacen.siguienteBloque()) {
+                leidosComprimido += almacen.descomprimir().size();
+            }
+            almacen.cerrar();
+            long cargarComprimido = System.nanoTime() - inicio;
+
+            // Mostrar resultados
+            System.out.println("  " + String.format("%-12s", "FORMATO") +
+                               String.format("%14s", "TAMANO") +
+                               String.format("%14s", "GUARDAR") +
+                               String.format("%14s", "CARGAR"));
+            System.out.println("  " + String.format("%-12s", "CSV") +
+                               String.format("%12d B", csv.length()) +
+                               String.format("%11d ms", guardarCSV / 1000000) +
+                               String.format("%11d ms", cargarCSV / 1000000));
+            System.out.println("  " + String.format("%-12s", "Comprimido") +
+                               String.format("%12d B", comprimido.length()) +
+                               String.format("%11d ms", guardarComprimido / 1000000) +
+                               String.format("%11d ms", cargarComprimido / 1000000));
+            System.out.println();
+            System.out.println("  [i] Clientes leidos: " + leidosCSV + " (CSV), " +
+                               leidosComprimido + " (comprimido)");
+            System.out.println("  [i] El fichero comprimido ocupa un " +
+                               (comprimido.length() * 100 / Math.max(1, csv.length())) +
+                               "% del CSV.");
+
+        } catch (IOException e) {
+            System.out.println("  [!] Error al comparar formatos: " + e.getMessage());
+        } finally {
+            if (csv != null) {
+                csv.delete();
+            }
+            if (comprimido != null) {
+                comprimido.delete();
+            }
+        }
+    }
+
+    // ============================================================
+    // CARGA EN SEGUNDO PLANO
+    // ============================================================
+
+    /**
+     * Indica si el hilo de carga ya ha leido todo el fichero.
+     *
+     * @return true si la carga ha terminado
+     */
+    public boolean isCargaCompleta() {
+        return cargaCompleta;
+    }
+
+    /**
+     * Devuelve el porcentaje aproximado del fichero que se ha leido.
+     *
+     * @return Porcentaje de 0 a 100
+     */
+    public int porcentajeCarga() {
+        if (cargaCompleta || bytesTotales <= 0) {
+            return 100;
+        }
+        return (int) Math.min(99, bytesLeidos * 100 / bytesTotales);
+    }
+
+    /**
+     * Bloquea hasta que el hilo de carga termine, avisando al usuario
+     * si todavia hay datos pendientes de leer.
+     * Si la espera se interrumpe o la carga ha fallado, la operacion se
+     * debe cancelar: con la lista a medias, guardar borraria datos del fichero.
+     *
+     * @return true si la carga ha terminado bien, false si no
+     */
+    private boolean esperarCarga() {
+        if (!cargaCompleta) {
+            System.out.println("  [i] Esperando a que termine la carga de datos (" +
+                               porcentajeCarga() + "%)...");
+            try {
+                hiloCarga.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.out.println("  [!] Espera interrumpida. Operacion cancelada.");
+                return false;
+            }
+        }
+
+        mostrarAvisosCarga();
+        if (cargaFallida) {
+            System.out.println("  [!] La carga de datos fallo y la lista esta incompleta.");
+            System.out.println("  [!] Operacion cancelada para no perder clientes del fichero.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Muestra los mensajes que ha dejado el hilo de carga desde la
+     * ultima vez. Se llama desde el menu, nunca desde el hilo de carga.
+     */
+    public void mostrarAvisosCarga() {
+        synchronized (avisosCarga) {
+            for (String aviso : avisosCarga) {
+                System.out.println(aviso);
+            }
+            if (avisosOmitidos > 0) {
+                System.out.println("  [!] ... y " + avisosOmitidos + " aviso(s) mas de la carga.");
+            }
+            avisosCarga.clear();
+            avisosOmitidos = 0;
+        }
+    }
+
+    /**
+     * Guarda un mensaje del hilo de carga para mostrarlo despues.
+     *
+     * @param aviso Texto del mensaje
+     */
+    private void avisarCarga(String aviso) {
+        synchronized (avisosCarga) {
+            if (avisosCarga.size() < MAX_AVISOS) {
+                avisosCarga.add(aviso);
+            } else {
+                avisosOmitidos++;
+            }
+        }
+    }
+
+    /**
+     * Si la carga sigue en curso, avisa de que los resultados
+     * son parciales y muestra el progreso.
+     */
+    private void mostrarProgresoCarga() {
+        mostrarAvisosCarga();
+        if (!cargaCompleta) {
+            System.out.println("  [i] Carga en curso (" + porcentajeCarga() +
+                               "%). Resultados sobre los clientes leidos hasta ahora.");
+        }
+    }
+
+    /**
+     * Devuelve la lista de clientes para recorrerla. Mientras el hilo
+     * de carga sigue anadiendo devuelve una copia; cuando ha terminado,
+     * la propia lista, para no copiar millones de clientes cada vez.
+     *
+     * @return La lista de clientes o una copia si la carga sigue en curso
+     */
+    private ArrayList<Cliente> clientesParaRecorrer() {
+        if (cargaCompleta) {
+            return clientes;
+        }
+        synchronized (clientes) {
+            return new ArrayList<Cliente>(clientes);
+        }
+    }
+
     // ============================================================
     // METODOS AUXILIARES PRIVADOS
     // ============================================================
 
     /**
      * Busca un cliente por su ID en la lista.
+     * Solo se llama despues de esperarCarga(), con la lista completa.
      * 
      * @param id ID del cliente a buscar
      * @return El cliente encontrado o null si no existe
@@ -353,6 +707,25 @@ public class GestorCRM {
         return null;
     }
 
+    /**
+     * Muestra una lista de valores con su frecuencia, numerada.
+     *
+     * @param top Lista de pares (valor, frecuencia estimada)
+     */
+    private void mostrarTop(List<Map.Entry<String, Long>> top) {
+        if (top.isEmpty()) {
+            System.out.println("    (sin datos)");
+            return;
+        }
+
+        int posicion = 1;
+        for (Map.Entry<String, Long> e : top) {
+            System.out.println("    " + String.format("%2d", posicion) + ". " +
+                               String.format("%-25s", e.getKey()) + " ~" + e.getValue());
+            posicion++;
+        }
+    }
+
     /**
      * Muestra un sub-menu para elegir la categoria del cliente.
      * 
@@ -396,14 +769,25 @@ public class GestorCRM {
     }
 
     // ============================================================
-    // PERSISTENCIA: Guardar y cargar datos en fichero CSV
+    // PERSISTENCIA: Guardar y cargar datos en fichero CSV o comprimido
     // ============================================================
 
     /**
-     * Guarda todos los clientes en un fichero CSV.
+     * Guarda todos los clientes en el fichero de datos: el CSV o,
+     * en modo comprimido, el fichero comprimido por bloques. Se escribe
+     * en un temporal de 'datos/' que despues sustituye al fichero, asi
+     * un fallo a medias no lo deja cortado. Despues borra el fichero
+     * del otro formato, que ya tendria datos antiguos.
      * Crea la carpeta 'datos/' si no existe.
+     * Solo se llama despues de esperarCarga(), con la lista completa.
      */
     private void guardarDatos() {
+        // Con la carga a medias, guardar borraria los clientes que faltan
+        if (cargaFallida) {
+            System.out.println("  [!] No se guarda: la carga de datos fallo y la lista esta incompleta.");
+            return;
+        }
+
         try {
             // Crear la carpeta datos/ si no existe
             File carpeta = new File("datos");
@@ -411,15 +795,30 @@ public class GestorCRM {
                 carpeta.mkdirs();
             }
 
-            // Abrir el fichero para escritura
-            PrintWriter escritor = new PrintWriter(new FileWriter(FICHERO_DATOS));
-
-            // Escribir cada cliente como una linea CSV
-            for (Cliente c : clientes) {
-                escritor.println(c.toCSV());
+            File destino = new File(modoComprimido ? FICHERO_COMPRIMIDO : FICHERO_DATOS);
+            File otro = new File(modoComprimido ? FICHERO_DATOS : FICHERO_COMPRIMIDO);
+
+            // Escribir en un temporal y sustituir el fichero solo cuando
+            // este completo: si falla a medias, el anterior queda intacto
+            File temporal = File.createTempFile("clientes", ".tmp", carpeta);
+            try {
+                if (modoComprimido) {
+                    AlmacenComprimido.guardar(clientes, temporal.getPath());
+                } else {
+                    escribirCSV(clientes, temporal.getPath());
+                }
+                reemplazar(temporal, destino);
+            } finally {
+                temporal.delete();
             }
 
-            escritor.close();
+            // Borrar el del otro formato para que solo haya uno. Aqui la
+            // lista esta completa (cargaFallida se comprueba arriba) y el
+            // fichero nuevo ya esta escrito entero
+            if (otro.exists() && !otro.delete()) {
+                System.out.println("  [!] No se pudo borrar " + otro.getPath() +
+                                   ". Borralo a mano para no cargar datos antiguos.");
+            }
 
         } catch (IOException e) {
             System.out.println("  [!] Error al guardar datos: " + e.getMessage());
@@ -427,20 +826,123 @@ public class GestorCRM {
     }
 
     /**
-     * Carga los clientes desde el fichero CSV al iniciar el programa.
-     * Si el fichero no existe, simplemente empieza con la lista vacia.
+     * Elige el fichero del que se cargan los datos. Solo debe haber uno
+     * (al guardar se borra el del otro formato), asi que se lee el que
+     * exista aunque sea del otro modo; el primer guardado lo convierte.
+     * Si por algun motivo existen los dos, se lee el mas reciente y se avisa.
+     *
+     * @return Fichero a cargar (puede no existir si el CRM esta vacio)
+     */
+    private File elegirFicheroCarga() {
+        File csv = new File(FICHERO_DATOS);
+        File comprimido = new File(FICHERO_COMPRIMIDO);
+
+        File elegido;
+        if (csv.exists() && comprimido.exists()) {
+            elegido = comprimido.lastModified() >= csv.lastModified() ? comprimido : csv;
+            avisarCarga("  [!] Existen " + FICHERO_DATOS + " y " + FICHERO_COMPRIMIDO +
+                        ". Se carga el mas reciente: " + elegido.getPath());
+        } else if (comprimido.exists()) {
+            elegido = comprimido;
+        } else {
+            elegido = csv;
+        }
+
+        // Avisar si los datos se van a convertir al otro formato
+        if (elegido.exists() && elegido.getName().endsWith(".crmz") != modoComprimido) {
+            avisarCarga("  [i] Datos leidos de " + elegido.getPath() + ". Al guardar se escribiran en " +
+                        (modoComprimido ? FICHERO_COMPRIMIDO : FICHERO_DATOS) + " y se borrara el otro.");
+        }
+        return elegido;
+    }
+
+    /**
+     * Escribe una lista de clientes en un fichero CSV, una linea por cliente.
+     *
+     * @param lista Clientes a escribir
+     * @param ruta  Ruta del fichero CSV
+     * @throws IOException Si no se puede escribir el fichero
+     */
+    private static void escribirCSV(List<Cliente> lista, String ruta) throws IOException {
+        // Abrir el fichero para escritura
+        PrintWriter escritor = new PrintWriter(new BufferedWriter(new FileWriter(ruta)));
+
+        // Escribir cada cliente como una linea CSV
+        for (Cliente c : lista) {
+            escritor.println(c.toCSV());
+        }
+
+        // PrintWriter no lanza excepciones: hay que preguntar si fallo
+        escritor.close();
+        if (escritor.checkError()) {
+            throw new IOException("No se pudo escribir " + ruta);
+        }
+    }
+
+    /**
+     * Mueve un fichero sobre otro, sustituyendolo de una vez si el
+     * sistema lo permite.
+     *
+     * @param origen  Fichero ya escrito por completo
+     * @param destino Fichero a sustituir
+     * @throws IOException Si no se puede mover
+     */
+    private static void reemplazar(File origen, File destino) throws IOException {
+        try {
+            Files.move(origen.toPath(), destino.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origen.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Carga los clientes al iniciar el programa.
+     * Se ejecuta en el hilo de carga: cada cliente leido se anade a la
+     * lista al momento, para que las busquedas vean los datos parciales.
+     * Lee el fichero elegido en el constructor. Los mensajes se guardan
+     * con avisarCarga() para no imprimir en mitad del menu.
+     * Si falla cualquier cosa se marca cargaFallida, para que nada
+     * guarde la lista incompleta encima del fichero.
      */
     private void cargarDatos() {
-        File fichero = new File(FICHERO_DATOS);
+        try {
+            if (ficheroCarga.getName().endsWith(".crmz")) {
+                cargarComprimido();
+            } else {
+                cargarCSV();
+            }
+        } catch (Throwable e) {
+            cargaFallida = true;
+            String motivo = e instanceof IOException ? e.getMessage() : e.toString();
+            avisarCarga("  [!] Error al cargar datos: " + motivo);
+            avisarCarga("  [!] Solo se han cargado " + clientes.size() +
+                        " clientes. No se guardaran cambios hasta reiniciar.");
+        } finally {
+            cargaCompleta = true;
+        }
+    }
+
+    /**
+     * Carga los clientes desde el fichero CSV linea a linea.
+     * Si el fichero no existe, simplemente empieza con la lista vacia.
+     *
+     * @throws IOException Si hay un error al leer el fichero
+     */
+    private void cargarCSV() throws IOException {
+        File fichero = ficheroCarga;
 
         // Si no existe el fichero, no hay nada que cargar
         if (!fichero.exists()) {
-            System.out.println("  [i] No se encontro fichero de datos. Empezando con CRM vacio.");
+            avisarCarga("  [i] No se encontro fichero de datos. Empezando con CRM vacio.");
             return;
         }
 
+        // EntradaContada suma los bytes leidos para el progreso
+        BufferedReader lector = new BufferedReader(new InputStreamReader(
+                new EntradaContada(new FileInputStream(fichero))));
         try {
-            BufferedReader lector = new BufferedReader(new FileReader(fichero));
+            ArrayList<String> avisos = new ArrayList<String>();
             String linea;
             int contador = 0;
 
@@ -452,23 +954,92 @@ public class GestorCRM {
                 }
 
                 // Crear cliente desde la linea CSV
-                Cliente c = Cliente.fromCSV(linea);
+                Cliente c = Cliente.fromCSV(linea, avisos);
                 if (c != null) {
-                    clientes.add(c);
+                    anadirCargado(c);
                     contador++;
-
-                    // Actualizar el siguienteId para no repetir IDs
-                    if (c.getId() >= siguienteId) {
-                        siguienteId = c.getId() + 1;
-                    }
+                } else {
+                    avisarCarga(avisos.remove(0));
                 }
             }
 
+            avisarCarga("  [OK] Cargados " + contador + " clientes desde " + fichero.getPath());
+
+        } finally {
             lector.close();
-            System.out.println("  [OK] Cargados " + contador + " clientes desde " + FICHERO_DATOS);
+        }
+    }
 
-        } catch (IOException e) {
-            System.out.println("  [!] Error al cargar datos: " + e.getMessage());
+    /**
+     * Carga los clientes desde el fichero comprimido, descomprimiendo
+     * un bloque cada vez.
+     *
+     * @throws IOException Si hay un error al leer o el fichero esta danado
+     */
+    private void cargarComprimido() throws IOException {
+        AlmacenComprimido almacen = new AlmacenComprimido(ficheroCarga.getPath());
+        try {
+            int contador = 0;
+
+            // Leer bloque a bloque
+            while (almacen.siguienteBloque()) {
+                for (Cliente c : almacen.descomprimir()) {
+                    anadirCargado(c);
+                    contador++;
+                }
+                bytesLeidos = almacen.getBytesLeidos();
+            }
+
+            avisarCarga("  [OK] Cargados " + contador + " clientes desde " + ficheroCarga.getPath());
+
+        } finally {
+            almacen.cerrar();
+        }
+    }
+
+    /**
+     * Anade un cliente leido del fichero a la lista y a la analitica.
+     *
+     * @param c Cliente leido
+     */
+    private void anadirCargado(Cliente c) {
+        synchronized (clientes) {
+            clientes.add(c);
+        }
+        analitica.registrar(c);
+
+        // Actualizar el siguienteId para no repetir IDs
+        if (c.getId() >= siguienteId) {
+            siguienteId = c.getId() + 1;
+        }
+    }
+
+    /**
+     * Flujo de entrada que va sumando en bytesLeidos los bytes que se
+     * leen del fichero, para calcular el progreso de la carga.
+     */
+    private class EntradaContada extends FilterInputStream {
+
+        EntradaContada(InputStream entrada) {
+            super(entrada);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytesLeidos++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int desde, int longitud) throws IOException {
+            int leidos = super.read(b, desde, longitud);
+            if (leidos > 0) {
+                bytesLeidos += leidos;
+            }
+            return leidos;
         }
     }
 }
@@ -0,0 +1,69 @@
+/**
+ * Clase HyperLogLog — Cuenta aproximadamente cuantos valores distintos
+ * se han visto (empresas, dominios...) usando siempre la misma memoria,
+ * da igual cuantos clientes haya. El error tipico es de un 1% aprox.
+ * No permite quitar valores: cuenta los distintos vistos hasta ahora.
+ *
+ * @author Alumno
+ * @version 1.0
+ */
+public class HyperLogLog {
+
+    // Bits del hash que eligen el registro (2^14 = 16384 registros)
+    private static final int BITS_REGISTRO = 14;
+    private static final int NUM_REGISTROS = 1 << BITS_REGISTRO;
+
+    // Cada registro guarda la racha de ceros mas larga vista
+    private byte[] registros;
+
+    /**
+     * Constructor — Crea un contador vacio.
+     */
+    public HyperLogLog() {
+        registros = new byte[NUM_REGISTROS];
+    }
+
+    /**
+     * Anade un valor al contador.
+     *
+     * @param valor Valor a contar
+     */
+    public void anadir(String valor) {
+        long hash = SketchFrecuencias.hash64(valor);
+
+        // Los primeros bits eligen el registro, el resto da la racha
+        int indice = (int) (hash >>> (64 - BITS_REGISTRO));
+        long resto = hash << BITS_REGISTRO;
+        int racha = Math.min(Long.numberOfLeadingZeros(resto), 64 - BITS_REGISTRO) + 1;
+
+        if (racha > registros[indice]) {
+            registros[indice] = (byte) racha;
+        }
+    }
+
+    /**
+     * Devuelve el numero aproximado de valores distintos.
+     *
+     * @return Estimacion de la cardinalidad
+     */
+    public long estimar() {
+        double suma = 0;
+        int vacios = 0;
+        for (byte r : registros) {
+            suma += Math.pow(2, -r);
+            if (r == 0) {
+                vacios++;
+            }
+        }
+
+        double m = NUM_REGISTROS;
+        double alfa = 0.7213 / (1 + 1.079 / m);
+        double estimacion = alfa * m * m / suma;
+
+        // Con pocos valores es mas exacto el conteo lineal
+        if (estimacion <= 2.5 * m && vacios > 0) {
+            estimacion = m * Math.log(m / vacios);
+        }
+        return Math.round(estimacion);
+    }
+}
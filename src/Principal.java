@@ -7,10 +7,13 @@ import java.util.Scanner;
  * 
  * Este es un programa de consola que permite gestionar clientes
  * mediante formularios de texto: alta, listado, busqueda,
- * modificacion, eliminacion y estadisticas.
+ * modificacion, eliminacion, estadisticas y analitica.
  * 
  * Los datos se guardan automaticamente en un fichero CSV
- * en la carpeta datos/clientes.csv.
+ * en la carpeta datos/clientes.csv, o comprimidos en
+ * datos/clientes.crmz si se arranca con el argumento --comprimido.
+ * Al guardar se borra el fichero del otro formato, para que los
+ * datos esten siempre en un unico fichero.
  * 
  * @author Alumno
  * @version 1.0
@@ -26,8 +29,12 @@ public class Principal {
         // Crear el Scanner para leer entrada del usuario
         Scanner scanner = new Scanner(System.in);
 
-        // Crear el gestor del CRM (carga datos del fichero si existen)
-        GestorCRM crm = new GestorCRM();
+        // Con el argumento --comprimido los datos se guardan comprimidos
+        boolean comprimido = args.length > 0 && args[0].equals("--comprimido");
+
+        // Crear el gestor del CRM (carga datos del fichero en segundo plano,
+        // asi el menu aparece al momento aunque el fichero sea grande)
+        GestorCRM crm = new GestorCRM(comprimido);
 
         // Variable para controlar el bucle del menu
         boolean salir = false;
@@ -42,6 +49,9 @@ public class Principal {
         // Bucle principal del programa
         while (!salir) {
 
+            // Mostrar lo que haya avisado la carga en segundo plano
+            crm.mostrarAvisosCarga();
+
             // Mostrar el menu
             System.out.println();
             System.out.println("  ═══════════════════════════════════════");
@@ -53,6 +63,8 @@ public class Principal {
             System.out.println("  4. Modificar cliente");
             System.out.println("  5. Eliminar cliente");
             System.out.println("  6. Estadisticas");
+            System.out.println("  7. Analitica (top empresas y dominios)");
+            System.out.println("  8. Comparar almacenamiento (CSV vs comprimido)");
             System.out.println("  0. Salir");
             System.out.println("  ═══════════════════════════════════════");
             System.out.print("  Elige una opcion: ");
@@ -80,11 +92,17 @@ public class Principal {
                 case "6":
                     crm.mostrarEstadisticas();
                     break;
+                case "7":
+                    crm.mostrarAnalitica();
+                    break;
+                case "8":
+                    crm.compararAlmacenamiento();
+                    break;
                 case "0":
                     salir = true;
                     break;
                 default:
-                    System.out.println("  [!] Opcion no valida. Introduce un numero del 0 al 6.");
+                    System.out.println("  [!] Opcion no valida. Introduce un numero del 0 al 8.");
             }
         }
 
@@ -0,0 +1,245 @@
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase SketchFrecuencias — Cuenta aproximadamente cuantas veces
+ * aparece cada valor (empresa, dominio de email...) con memoria fija.
+ * Usa un Count-Min Sketch (una tabla de contadores con varias funciones
+ * hash) y guarda solo un numero limitado de candidatos para el top-K.
+ * Al sumar usa "actualizacion conservadora": solo sube los contadores
+ * que estan en el minimo, lo que reduce mucho el ruido de colisiones
+ * cuando hay muchos valores poco frecuentes.
+ * Sin bajas, las estimaciones nunca son menores que el valor real y se
+ * pasan como mucho en margenError() (con probabilidad de un 98%).
+ *
+ * @author Alumno
+ * @version 1.0
+ */
+public class SketchFrecuencias {
+
+    // Tamano de la tabla: PROFUNDIDAD filas de ANCHURA contadores
+    // (4 x 262144 contadores de 4 bytes = 4 MB, da igual cuantos clientes
+    // haya; pensado para decenas de millones de clientes)
+    private static final int ANCHURA = 262144;
+    private static final int PROFUNDIDAD = 4;
+
+    // Tabla de contadores del Count-Min Sketch
+    private int[][] contadores;
+
+    // Suma de todas las apariciones contadas (N)
+    private long total;
+
+    // Candidatos a mas frecuentes y su frecuencia estimada
+    private HashMap<String, Long> candidatos;
+
+    // Numero maximo de candidatos que se guardan
+    private int maxCandidatos;
+
+    // Candidato menos frecuente (null si hay que recalcularlo)
+    private String menor;
+    private long frecuenciaMenor;
+
+    /**
+     * Constructor — Crea un sketch vacio.
+     *
+     * @param maxCandidatos Numero maximo de valores frecuentes a recordar
+     */
+    public SketchFrecuencias(int maxCandidatos) {
+        this.contadores = new int[PROFUNDIDAD][ANCHURA];
+        this.candidatos = new HashMap<String, Long>();
+        this.maxCandidatos = maxCandidatos;
+    }
+
+    /**
+     * Suma (o resta, si delta es negativo) apariciones de un valor
+     * y actualiza la lista de candidatos.
+     * Al restar se bajan todas las filas, asi que despues de muchas
+     * bajas alguna estimacion puede quedar un poco por debajo de la real.
+     *
+     * @param valor Valor a contar
+     * @param delta Apariciones a sumar (negativo para quitar)
+     */
+    public void sumar(String valor, long delta) {
+        long hash = hash64(valor);
+        total += delta;
+
+        // Cada fila usa una funcion hash distinta
+        if (delta > 0) {
+            // Actualizacion conservadora: ningun contador pasa de la
+            // estimacion nueva, asi no se inflan los de otros valores
+            long nueva = estimar(valor) + delta;
+            for (int i = 0; i < PROFUNDIDAD; i++) {
+                int columna = posicion(hash, i);
+                if (contadores[i][columna] < nueva) {
+                    contadores[i][columna] = (int) nueva;
+                }
+            }
+        } else {
+            for (int i = 0; i < PROFUNDIDAD; i++) {
+                contadores[i][posicion(hash, i)] += (int) delta;
+            }
+        }
+
+        actualizarCandidato(valor, estimar(valor));
+    }
+
+    /**
+     * Devuelve cuanto puede pasarse como mucho una estimacion:
+     * e * N / ANCHURA, siendo N el total de apariciones contadas.
+     *
+     * @return Margen de error por valor
+     */
+    public long margenError() {
+        return (long) Math.ceil(Math.E * Math.max(0, total) / ANCHURA);
+    }
+
+    /**
+     * Devuelve la frecuencia estimada de un valor.
+     *
+     * @param valor Valor a consultar
+     * @return Numero aproximado de apariciones (nunca menor que el real)
+     */
+    public long estimar(String valor) {
+        long hash = hash64(valor);
+
+        // El minimo de todas las filas es la mejor estimacion
+        long minimo = Long.MAX_VALUE;
+        for (int i = 0; i < PROFUNDIDAD; i++) {
+            minimo = Math.min(minimo, contadores[i][posicion(hash, i)]);
+        }
+        return minimo;
+    }
+
+    /**
+     * Devuelve los k valores mas frecuentes, de mayor a menor.
+     *
+     * @param k Numero de valores a devolver
+     * @return Lista de pares (valor, frecuencia estimada)
+     */
+    public List<Map.Entry<String, Long>> top(int k) {
+        ArrayList<Map.Entry<String, Long>> lista = new ArrayList<Map.Entry<String, Long>>();
+        for (Map.Entry<String, Long> e : candidatos.entrySet()) {
+            lista.add(new AbstractMap.SimpleEntry<String, Long>(e.getKey(), e.getValue()));
+        }
+
+        // Ordenar de mayor a menor frecuencia
+        Collections.sort(lista, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> a, Map.Entry<String, Long> b) {
+                return Long.compare(b.getValue(), a.getValue());
+            }
+        });
+
+        if (lista.size() > k) {
+            return new ArrayList<Map.Entry<String, Long>>(lista.subList(0, k));
+        }
+        return lista;
+    }
+
+    // ============================================================
+    // METODOS AUXILIARES PRIVADOS
+    // ============================================================
+
+    /**
+     * Mete, actualiza o saca un valor de la lista de candidatos.
+     * Si la lista esta llena, solo entra si supera al menos frecuente.
+     */
+    private void actualizarCandidato(String valor, long estimacion) {
+        boolean esCandidato = candidatos.containsKey(valor);
+
+        // Si ya no aparece, se quita de los candidatos
+        if (estimacion <= 0) {
+            if (esCandidato) {
+                candidatos.remove(valor);
+                if (valor.equals(menor)) {
+                    menor = null;
+                }
+            }
+            return;
+        }
+
+        if (esCandidato || candidatos.size() < maxCandidatos) {
+            candidatos.put(valor, estimacion);
+
+            // Mantener el minimo sin recorrer la lista
+            if (valor.equals(menor)) {
+                // El minimo ha cambiado: se recalcula en la siguiente sustitucion
+                menor = null;
+            } else if (menor != null && estimacion < frecuenciaMenor) {
+                menor = valor;
+                frecuenciaMenor = estimacion;
+            }
+            return;
+        }
+
+        // Lista llena: solo se busca el minimo si hace falta recalcularlo
+        if (menor == null) {
+            recalcularMenor();
+        }
+
+        // Sustituir al menos frecuente si el nuevo valor lo supera
+        if (estimacion > frecuenciaMenor) {
+            candidatos.remove(menor);
+            candidatos.put(valor, estimacion);
+            menor = null;
+        }
+    }
+
+    /**
+     * Busca el candidato menos frecuente recorriendo la lista.
+     * Solo hace falta cuando el minimo anterior ha cambiado o ha salido.
+     */
+    private void recalcularMenor() {
+        menor = null;
+        frecuenciaMenor = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> e : candidatos.entrySet()) {
+            if (e.getValue() < frecuenciaMenor) {
+                menor = e.getKey();
+                frecuenciaMenor = e.getValue();
+            }
+        }
+    }
+
+    /**
+     * Calcula la columna de la fila i volviendo a mezclar el hash
+     * con una semilla distinta por fila, para que las filas no
+     * compartan colisiones.
+     */
+    private static int posicion(long hash, int i) {
+        long h = mezclar(hash + (i + 1) * 0x9e3779b97f4a7c15L);
+        return (int) ((h >>> 1) % ANCHURA);
+    }
+
+    /**
+     * Hash de 64 bits de un texto (FNV-1a con mezcla final),
+     * compartido con HyperLogLog.
+     *
+     * @param texto Texto a resumir
+     * @return Hash de 64 bits
+     */
+    static long hash64(String texto) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < texto.length(); i++) {
+            h ^= texto.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mezclar(h);
+    }
+
+    /**
+     * Mezcla final de MurmurHash3: reparte bien todos los bits.
+     */
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}